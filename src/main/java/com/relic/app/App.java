@@ -33,6 +33,11 @@ public class App {
         if (null != args && args.length > 0) {
             System.out.println("Parsing the following file(s): " + Arrays.toString(args));
 
+            if (!isResetEachInput) {
+                // size the word sequence tracking for all inputs together, rather than just the first one processed
+                textReader.presize(args);
+            }
+
             for (final String arg : args) {
                 textReader.processInput(arg);
 
@@ -0,0 +1,82 @@
+package com.relic.app.reader;
+
+/**
+ * HyperLogLog based estimator of the number of distinct Strings it has been given. Uses a fixed amount of memory
+ * regardless of how many Strings are added, at the cost of a small relative error of roughly 1%.
+ */
+public class CardinalityEstimator {
+    private static final Integer PRECISION = 14;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final byte[] registers = new byte[1 << PRECISION];
+
+    /**
+     * Records the provided element. Adding an element that has already been recorded does not change the estimate.
+     *
+     * @param element Element to record
+     */
+    public void add(final String element) {
+        final long hash = hash(element);
+        // the leading bits pick the register, the remaining bits provide the run of zeroes to observe
+        final int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        final byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Returns the estimated number of distinct elements recorded so far.
+     *
+     * @return the estimated cardinality
+     */
+    public long estimate() {
+        final int registerCount = registers.length;
+        double sum = 0;
+        int zeroRegisters = 0;
+
+        for (final byte register : registers) {
+            sum += 1.0 / (1L << register);
+
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+
+        final double alpha = 0.7213 / (1 + 1.079 / registerCount);
+        final double rawEstimate = alpha * registerCount * registerCount / sum;
+
+        if (rawEstimate <= 2.5 * registerCount && zeroRegisters > 0) {
+            // for small cardinalities linear counting over the empty registers is far more accurate
+            return Math.round(registerCount * Math.log((double) registerCount / zeroRegisters));
+        }
+
+        return Math.round(rawEstimate);
+    }
+
+    /**
+     * Helper method that produces a well distributed 64-bit hash of the provided String. {@link String#hashCode()} is
+     * only 32 bits and too weakly mixed for HyperLogLog, so an FNV-1a hash is finished with the MurmurHash3 mixer.
+     *
+     * @param element String to hash
+     * @return 64-bit hash of the String
+     */
+    private static long hash(final String element) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (int i = 0; i < element.length(); i++) {
+            hash ^= element.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb34fe1a85cbbL;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
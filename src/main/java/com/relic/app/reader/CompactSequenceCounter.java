@@ -0,0 +1,150 @@
+package com.relic.app.reader;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link SequenceCounter} backed by an open addressing table of parallel key, hash and primitive count arrays. Avoids
+ * the per-entry node and boxed count a {@link java.util.HashMap} carries, which adds up on large inputs.
+ */
+public class CompactSequenceCounter implements SequenceCounter {
+    private static final Integer MIN_CAPACITY = 16;
+    private static final Integer MAX_CAPACITY = 1 << 30;
+    private static final Float LOAD_FACTOR = 0.75f;
+
+    private String[] keys;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * Creates an instance of {@link CompactSequenceCounter} with the minimum capacity of {@value MIN_CAPACITY}.
+     */
+    public CompactSequenceCounter() {
+        this(0);
+    }
+
+    /**
+     * Creates an instance of {@link CompactSequenceCounter} sized to hold the specified number of sequences without
+     * growing.
+     *
+     * @param expectedEntries Number of distinct sequences expected
+     */
+    public CompactSequenceCounter(final int expectedEntries) {
+        allocate(tableSizeFor((long) Math.ceil(expectedEntries / (double) LOAD_FACTOR)));
+    }
+
+    @Override
+    public void increment(final String sequence) {
+        final int mask = keys.length - 1;
+        final int hash = spread(sequence.hashCode());
+        int index = hash & mask;
+        String key;
+
+        // probe linearly until we find the sequence or the empty slot it belongs in, comparing the cached hash first so
+        // mismatched slots do not have to load their key
+        while ((key = keys[index]) != null) {
+            if (hashes[index] == hash && key.equals(sequence)) {
+                counts[index]++;
+                return;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = sequence;
+        hashes[index] = hash;
+        counts[index] = 1;
+
+        if (++size > resizeThreshold) {
+            grow();
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Stream<Map.Entry<String, Integer>> entries() {
+        final String[] tableKeys = keys;
+        final int[] tableCounts = counts;
+
+        return IntStream.range(0, tableKeys.length)
+                .filter(i -> tableKeys[i] != null)
+                .mapToObj(i -> new AbstractMap.SimpleImmutableEntry<>(tableKeys[i], tableCounts[i]));
+    }
+
+    /**
+     * Doubles the size of the table, re-inserting every tracked sequence.
+     */
+    private void grow() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Unable to track more than " + resizeThreshold + " distinct sequences");
+        }
+
+        final String[] oldKeys = keys;
+        final int[] oldHashes = hashes;
+        final int[] oldCounts = counts;
+        allocate(oldKeys.length * 2);
+        final int mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = oldHashes[i] & mask;
+
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+
+                keys[index] = oldKeys[i];
+                hashes[index] = oldHashes[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Helper method that replaces the table with an empty one of the specified capacity.
+     *
+     * @param capacity Number of slots, a power of two
+     */
+    private void allocate(final int capacity) {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Helper method that mixes the bits of a {@link String#hashCode()} so that similar sequences do not cluster in
+     * neighbouring slots.
+     *
+     * @param hash Hash to mix
+     * @return the mixed hash
+     */
+    private static int spread(final int hash) {
+        final int mixed = hash * 0x9e3779b9;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    /**
+     * Helper method that returns the smallest power of two table capacity holding the specified number of slots.
+     *
+     * @param slots Number of slots required
+     * @return the table capacity, between {@value MIN_CAPACITY} and {@value MAX_CAPACITY}
+     */
+    private static int tableSizeFor(final long slots) {
+        int capacity = MIN_CAPACITY;
+
+        while (capacity < slots && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+}
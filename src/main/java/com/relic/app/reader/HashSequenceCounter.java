@@ -0,0 +1,47 @@
+package com.relic.app.reader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * {@link SequenceCounter} backed by a {@link HashMap}. Suited to small or unknown inputs.
+ */
+public class HashSequenceCounter implements SequenceCounter {
+    private static final Float LOAD_FACTOR = 0.75f;
+
+    private final Map<String, Integer> counts;
+
+    /**
+     * Creates an instance of {@link HashSequenceCounter} with the default {@link HashMap} capacity.
+     */
+    public HashSequenceCounter() {
+        counts = new HashMap<>();
+    }
+
+    /**
+     * Creates an instance of {@link HashSequenceCounter} sized to hold the specified number of sequences without
+     * rehashing.
+     *
+     * @param expectedEntries Number of distinct sequences expected
+     */
+    public HashSequenceCounter(final int expectedEntries) {
+        final long capacity = (long) Math.ceil(expectedEntries / (double) LOAD_FACTOR);
+        counts = new HashMap<>((int) Math.min(capacity, Integer.MAX_VALUE), LOAD_FACTOR);
+    }
+
+    @Override
+    public void increment(final String sequence) {
+        counts.compute(sequence, (s, i) -> i == null ? 1 : i + 1);
+    }
+
+    @Override
+    public int size() {
+        return counts.size();
+    }
+
+    @Override
+    public Stream<Map.Entry<String, Integer>> entries() {
+        return counts.entrySet().stream();
+    }
+}
@@ -0,0 +1,39 @@
+package com.relic.app.reader;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Tracks how many times each word sequence has been seen.
+ */
+public interface SequenceCounter {
+    /**
+     * Records another occurrence of the provided sequence.
+     *
+     * @param sequence Sequence to count
+     */
+    void increment(String sequence);
+
+    /**
+     * Returns the number of distinct sequences recorded.
+     *
+     * @return the number of distinct sequences
+     */
+    int size();
+
+    /**
+     * Returns whether any sequences have been recorded.
+     *
+     * @return true if no sequences have been recorded, false otherwise
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns every distinct sequence recorded along with its count, in no particular order.
+     *
+     * @return stream of sequence to count entries
+     */
+    Stream<Map.Entry<String, Integer>> entries();
+}
@@ -1,13 +1,18 @@
 package com.relic.app.reader;
 
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -21,14 +26,21 @@ public class TextReader {
     private static final Pattern UNICODE_SINGLE_QUOTE_PATTERN = Pattern.compile("’");
     private static final Integer DEFAULT_RESULT_LIMIT = 100;
     private static final Integer SEQUENCE_OUTPUT_PADDING = 35;
+    private static final Integer SAMPLE_BYTE_LIMIT = 256 * 1024;
+    private static final Integer UNKNOWN_INPUT_SIZE = -1;
+    private static final Integer PRESIZE_HEAP_DIVISOR = 16;
+    private static final Integer PRESIZE_BYTES_PER_ENTRY = 44;
+    private static final Integer COMPACT_COUNTER_THRESHOLD = 100000;
     private static final String OUTPUT_SEPARATOR = "===========================================";
     private static final String HEADER_SEPARATOR = "-------------------------------------------";
     private static final String NEWLINE_SEPARATOR = System.getProperty("line.separator");
 
-    private final Map<String, Integer> wordSequenceMap = new HashMap<>();
     private final List<String> sources = new ArrayList<>();
     private final Sequence<String> sequence;
+    private final Integer sequenceSize;
     private final Integer resultCount;
+    private SequenceCounter wordSequenceCounter = new HashSequenceCounter();
+    private boolean isPresized = false;
 
     /**
      * Creates an instance of {@link TextReader} with default values.
@@ -45,6 +57,7 @@ public class TextReader {
      */
     public TextReader(final Integer resultCount, final Integer sequenceSize) {
         this.resultCount = resultCount;
+        this.sequenceSize = sequenceSize;
         sequence = (null == sequenceSize) ?  new Sequence<>() : new Sequence<>(sequenceSize);
     }
 
@@ -52,7 +65,9 @@ public class TextReader {
      * Processes StdIn for the most common word sequences.
      */
     public void processInput() {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+        try (BufferedInputStream in = new BufferedInputStream(System.in, SAMPLE_BYTE_LIMIT);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            presize(in);
             processInput("StdIn", reader);
         } catch (IOException e) {
             System.err.println("Unable to read input from StdIn: " + e);
@@ -65,6 +80,9 @@ public class TextReader {
      * @param file Name of file to process
      */
     public void processInput(final String file) {
+        // only has an effect if the inputs were not already presized together
+        presize(file);
+
         try (final BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
             processInput(file, reader);
         } catch (final IOException e) {
@@ -89,12 +107,246 @@ public class TextReader {
         }
     }
 
+    /**
+     * Picks and sizes the sequence counter up front to fit the distinct word sequences the provided files are estimated
+     * to hold in aggregate, so that it does not have to rehash repeatedly while they are processed. Files to be
+     * processed in aggregate should be presized together before any of them is processed. The estimate is capped so that the
+     * presized table never claims more than roughly 1/{@value PRESIZE_HEAP_DIVISOR} of the maximum heap.
+     *
+     * <p>The counter is only picked once between calls to {@link #reset()}, and never once sequences have been counted,
+     * as swapping it out would rehash everything already tracked.</p>
+     *
+     * @param files Names of files to presize for
+     */
+    public void presize(final String... files) {
+        if (isPresized || !wordSequenceCounter.isEmpty()) {
+            return;
+        }
+
+        long expectedEntries = 0;
+
+        for (final String file : files) {
+            // sequences shared between files are counted more than once, which only errs towards a larger table
+            expectedEntries += estimateDistinctSequences(Paths.get(file));
+        }
+
+        presize(expectedEntries);
+    }
+
+    /**
+     * Picks and sizes the sequence counter from an early sample of the provided stream. The sample is read ahead and the
+     * stream rewound, so processing still sees the input from its start. As the stream's length is unknown the sampled
+     * count is not extrapolated.
+     *
+     * @param in Stream to sample, positioned at the start of the input
+     * @throws IOException if an error is encountered trying to read the stream
+     */
+    private void presize(final BufferedInputStream in) throws IOException {
+        if (isPresized || !wordSequenceCounter.isEmpty()) {
+            return;
+        }
+
+        in.mark(SAMPLE_BYTE_LIMIT);
+        final byte[] sample = readSample(in, SAMPLE_BYTE_LIMIT);
+        in.reset();
+
+        // a sample shorter than the limit means the stream ended within it
+        final long inputSize = sample.length < SAMPLE_BYTE_LIMIT ? sample.length : UNKNOWN_INPUT_SIZE;
+        presize(estimateDistinctSequences(sample, inputSize));
+    }
+
+    /**
+     * Replaces the sequence counter with one picked and sized for the specified number of distinct sequences, capped by
+     * the share of the heap a presized table may claim.
+     *
+     * @param expectedEntries Number of distinct sequences expected
+     */
+    private void presize(final long expectedEntries) {
+        // a presized entry may take up to ~2.7 table slots (load factor and power of two rounding) of up to 16 bytes
+        final long maxEntries = Runtime.getRuntime().maxMemory() / PRESIZE_HEAP_DIVISOR / PRESIZE_BYTES_PER_ENTRY;
+
+        wordSequenceCounter = createCounter((int) Math.min(Math.min(expectedEntries, maxEntries), Integer.MAX_VALUE));
+        isPresized = true;
+    }
+
+    /**
+     * Creates the {@link SequenceCounter} best suited to the specified number of distinct sequences. Small inputs use a
+     * {@link HashSequenceCounter}, while inputs of {@value COMPACT_COUNTER_THRESHOLD} sequences or more use a
+     * {@link CompactSequenceCounter} to avoid a node and boxed count per sequence.
+     *
+     * @param expectedEntries Number of distinct sequences expected
+     * @return a counter sized to hold the expected sequences
+     */
+    static SequenceCounter createCounter(final int expectedEntries) {
+        return expectedEntries >= COMPACT_COUNTER_THRESHOLD
+                ? new CompactSequenceCounter(expectedEntries)
+                : new HashSequenceCounter(expectedEntries);
+    }
+
+    /**
+     * Estimates how many distinct word sequences the provided file holds. Only the first {@value SAMPLE_BYTE_LIMIT}
+     * bytes are sampled.
+     *
+     * @param file File to sample
+     * @return the estimated number of distinct word sequences, or 0 if the file could not be read
+     */
+    long estimateDistinctSequences(final Path file) {
+        try {
+            final long fileSize = Files.size(file);
+
+            return estimateDistinctSequences(readSample(file, (int) Math.min(fileSize, SAMPLE_BYTE_LIMIT)), fileSize);
+        } catch (final IOException e) {
+            // leave reporting the problem to the actual processing of the input
+            return 0;
+        }
+    }
+
+    /**
+     * Estimates how many distinct word sequences an input holds from a sample of its first bytes. If the input is larger
+     * than the sample, the sampled count is extrapolated to the input's size using the growth rate seen between the two
+     * halves of the sample, as distinct sequences grow more slowly than the text itself. Both halves end on a line
+     * break so that no word, or UTF-8 character, is cut in two.
+     *
+     * @param sample Bytes read from the start of the input
+     * @param inputSize Size of the whole input in bytes, or {@value UNKNOWN_INPUT_SIZE} if it is not known
+     * @return the estimated number of distinct word sequences
+     */
+    private long estimateDistinctSequences(final byte[] sample, final long inputSize) {
+        final boolean isWholeInput = inputSize != UNKNOWN_INPUT_SIZE && sample.length >= inputSize;
+        // a partial sample stops at its last complete line - unless it holds no line break at all
+        final int lastLineEnd = lineBoundaryBefore(sample, sample.length);
+        final int end = isWholeInput || lastLineEnd == 0 ? sample.length : lastLineEnd;
+        final int half = lineBoundaryAfter(sample, end / 2, end);
+
+        final CardinalityEstimator sampleEstimator = new CardinalityEstimator();
+        final Sequence<String> sampleSequence = (null == sequenceSize) ? new Sequence<>() : new Sequence<>(sequenceSize);
+
+        estimateLines(new String(sample, 0, half, StandardCharsets.UTF_8), sampleSequence, sampleEstimator);
+        final long halfEstimate = sampleEstimator.estimate();
+        estimateLines(new String(sample, half, end - half, StandardCharsets.UTF_8), sampleSequence, sampleEstimator);
+        final long sampleEstimate = sampleEstimator.estimate();
+
+        if (isWholeInput || inputSize == UNKNOWN_INPUT_SIZE || halfEstimate == 0 || half == end) {
+            // the whole input was sampled, or there is nothing to extrapolate from or to
+            return sampleEstimate;
+        }
+
+        // distinct sequences grow roughly as a power of the text length, so fit that power from the two halves
+        final double growth = Math.log((double) sampleEstimate / halfEstimate) / Math.log((double) end / half);
+        final double exponent = Math.max(0, Math.min(1, growth));
+
+        return (long) (sampleEstimate * Math.pow((double) inputSize / end, exponent));
+    }
+
+    /**
+     * Returns the counter currently tracking word sequences.
+     *
+     * @return the sequence counter
+     */
+    SequenceCounter getWordSequenceCounter() {
+        return wordSequenceCounter;
+    }
+
+    /**
+     * Helper method that feeds every word sequence in the provided text into the provided estimator.
+     *
+     * @param text Text to parse
+     * @param wordSequence Sequence tracking the most recent words, carried across calls
+     * @param estimator Estimator to record the sequences in
+     */
+    private void estimateLines(final String text, final Sequence<String> wordSequence,
+                               final CardinalityEstimator estimator) {
+        new BufferedReader(new StringReader(text)).lines()
+                .forEach(line -> forEachSequence(line, wordSequence, estimator::add));
+    }
+
+    /**
+     * Helper method that reads up to the specified number of bytes from the start of the provided file.
+     *
+     * @param file File to read
+     * @param length Number of bytes to read
+     * @return the bytes read, shorter than requested only if the file ended first
+     * @throws IOException if an error is encountered trying to read the file
+     */
+    private static byte[] readSample(final Path file, final int length) throws IOException {
+        try (final InputStream in = Files.newInputStream(file)) {
+            return readSample(in, length);
+        }
+    }
+
+    /**
+     * Helper method that reads up to the specified number of bytes from the provided stream.
+     *
+     * @param in Stream to read
+     * @param length Number of bytes to read
+     * @return the bytes read, shorter than requested only if the stream ended first
+     * @throws IOException if an error is encountered trying to read the stream
+     */
+    private static byte[] readSample(final InputStream in, final int length) throws IOException {
+        final byte[] sample = new byte[length];
+        int read = 0;
+        int count;
+
+        while (read < length && (count = in.read(sample, read, length - read)) != -1) {
+            read += count;
+        }
+
+        return read == length ? sample : Arrays.copyOf(sample, read);
+    }
+
+    /**
+     * Helper method that finds the end of the last complete line within the first bytes of the sample.
+     *
+     * @param sample Sample to search
+     * @param limit Number of leading bytes to search
+     * @return the index just past the last line break found, or 0 if there is none
+     */
+    private static int lineBoundaryBefore(final byte[] sample, final int limit) {
+        for (int i = limit - 1; i >= 0; i--) {
+            if (sample[i] == '\n') {
+                return i + 1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Helper method that finds the end of the first line ending at or after the specified index.
+     *
+     * @param sample Sample to search
+     * @param from Index to start searching from
+     * @param limit Index to stop searching at
+     * @return the index just past the first line break found, or the limit if there is none
+     */
+    private static int lineBoundaryAfter(final byte[] sample, final int from, final int limit) {
+        for (int i = from; i < limit; i++) {
+            if (sample[i] == '\n') {
+                return i + 1;
+            }
+        }
+
+        return limit;
+    }
+
     /**
      * Contains logic to process an input line.
      *
      * @param line Line to process
      */
     private void handleLine(final String line) {
+        forEachSequence(line, sequence, wordSequenceCounter::increment);
+    }
+
+    /**
+     * Parses the words out of an input line, feeding them into the provided sequence and handing each complete word
+     * sequence to the provided action.
+     *
+     * @param line Line to parse
+     * @param wordSequence Sequence tracking the most recent words, carried across lines
+     * @param action Action to perform on each complete sequence, joined into a singular space delimited string
+     */
+    private void forEachSequence(final String line, final Sequence<String> wordSequence, final Consumer<String> action) {
         if (line.isEmpty()) {
             // skip empty lines
             return;
@@ -105,13 +357,13 @@ public class TextReader {
 
         // as long as we have a word, process it
         while (matcher.find()) {
-            sequence.addToSequence(matcher.group());
+            wordSequence.addToSequence(matcher.group());
 
-            // if we have a valid sequence join it into a singular space delimited string and add it to our sequence map
-            sequence.getSequence().ifPresent(strings -> {
+            // if we have a valid sequence join it into a singular space delimited string and hand it off
+            wordSequence.getSequence().ifPresent(strings -> {
                 final StringJoiner joiner = new StringJoiner(" ");
                 strings.forEach(joiner::add);
-                wordSequenceMap.compute(joiner.toString(), (s, i) -> i == null ? 1 : i + 1);
+                action.accept(joiner.toString());
             });
         }
     }
@@ -134,6 +386,9 @@ public class TextReader {
                     .append(sources.size() == 1 ? " " : " the following combined sources: ")
                     .append(sj)
                     .append(NEWLINE_SEPARATOR)
+                    .append("Distinct word sequences: ")
+                    .append(wordSequenceCounter.size())
+                    .append(NEWLINE_SEPARATOR)
                     .append(NEWLINE_SEPARATOR)
                     .append("Sequence                            | Count")
                     .append(NEWLINE_SEPARATOR)
@@ -141,8 +396,10 @@ public class TextReader {
                     .append(NEWLINE_SEPARATOR);
         }
 
-        wordSequenceMap.entrySet().stream()
-                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+        wordSequenceCounter.entries()
+                // break ties on the sequence itself so the output does not depend on the counter's iteration order
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
                 .limit(resultCount)
                 .forEach(e -> {
                     sb.append(String.format("%-" + SEQUENCE_OUTPUT_PADDING + "s", e.getKey()))
@@ -179,7 +436,9 @@ public class TextReader {
      * Method that resets the tracked data held by this class instance. Useful for resetting data between processed inputs.
      */
     public void reset() {
-        wordSequenceMap.clear();
+        // drop the counter rather than clearing it so a large previous input does not pin its table in memory
+        wordSequenceCounter = new HashSequenceCounter();
+        isPresized = false;
         sequence.clear();
         sources.clear();
     }
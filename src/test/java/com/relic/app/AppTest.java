@@ -60,7 +60,8 @@ public class AppTest {
         App.main(null);
 
         assertEquals("Parsing StdIn" + NEWLINE_SEPARATOR + NEWLINE_SEPARATOR +
-                "Here are the most common word sequences for StdIn" + NEWLINE_SEPARATOR + NEWLINE_SEPARATOR +
+                "Here are the most common word sequences for StdIn" + NEWLINE_SEPARATOR +
+                "Distinct word sequences: 0" + NEWLINE_SEPARATOR + NEWLINE_SEPARATOR +
                 "Sequence                            | Count" + NEWLINE_SEPARATOR +
                 "-------------------------------------------" + NEWLINE_SEPARATOR +
                 "===========================================" + NEWLINE_SEPARATOR, mockOutput.toString());
@@ -69,7 +70,8 @@ public class AppTest {
         App.main(new String[]{});
 
         assertEquals("Parsing StdIn" + NEWLINE_SEPARATOR + NEWLINE_SEPARATOR +
-                "Here are the most common word sequences for StdIn" + NEWLINE_SEPARATOR + NEWLINE_SEPARATOR +
+                "Here are the most common word sequences for StdIn" + NEWLINE_SEPARATOR +
+                "Distinct word sequences: 0" + NEWLINE_SEPARATOR + NEWLINE_SEPARATOR +
                 "Sequence                            | Count" + NEWLINE_SEPARATOR +
                 "-------------------------------------------" + NEWLINE_SEPARATOR +
                 "===========================================" + NEWLINE_SEPARATOR, mockOutput.toString());
@@ -0,0 +1,59 @@
+package com.relic.app.reader;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CardinalityEstimator}.
+ */
+public class CardinalityEstimatorTest {
+    private static final double ALLOWED_ERROR = 0.03;
+    private CardinalityEstimator estimator;
+
+    @Before
+    public void init() {
+        estimator = new CardinalityEstimator();
+    }
+
+    @Test
+    public void should_estimate_zero_when_empty() {
+        assertEquals(0, estimator.estimate());
+    }
+
+    @Test
+    public void should_estimate_small_cardinality_exactly() {
+        estimator.add("the beef was");
+        estimator.add("beef was fine-tough");
+        estimator.add("was fine-tough the");
+
+        assertEquals(3, estimator.estimate());
+    }
+
+    @Test
+    public void should_ignore_duplicates() {
+        int i = 0;
+
+        while (i < 1000) {
+            i++;
+            estimator.add("one of the");
+            estimator.add("out of the");
+        }
+
+        assertEquals(2, estimator.estimate());
+    }
+
+    @Test
+    public void should_estimate_large_cardinality_within_error() {
+        final int distinct = 250000;
+
+        for (int i = 0; i < distinct; i++) {
+            estimator.add("sequence " + i);
+            // re-adding earlier elements must not inflate the estimate
+            estimator.add("sequence " + (i / 2));
+        }
+
+        assertEquals(distinct, estimator.estimate(), distinct * ALLOWED_ERROR);
+    }
+}
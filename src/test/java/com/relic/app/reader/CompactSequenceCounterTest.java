@@ -0,0 +1,86 @@
+package com.relic.app.reader;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CompactSequenceCounter}.
+ */
+public class CompactSequenceCounterTest {
+    private CompactSequenceCounter counter;
+
+    @Before
+    public void init() {
+        // most tests will use default counter constructor so consolidate that here and let unit tests override as needed
+        counter = new CompactSequenceCounter();
+    }
+
+    @Test
+    public void should_start_empty() {
+        assertTrue(counter.isEmpty());
+        assertEquals(0, counter.size());
+        assertEquals(0, counter.entries().count());
+    }
+
+    @Test
+    public void should_count_sequences() {
+        counter.increment("one of the");
+        counter.increment("out of the");
+        counter.increment("one of the");
+
+        final Map<String, Integer> expected = new HashMap<>();
+        expected.put("one of the", 2);
+        expected.put("out of the", 1);
+
+        assertEquals(2, counter.size());
+        assertEquals(expected, toMap(counter));
+    }
+
+    @Test
+    public void should_grow_beyond_initial_capacity() {
+        final Map<String, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 10000; i++) {
+            // repeat every third sequence so counts are carried over when the table grows
+            final String sequence = "sequence " + (i - i % 3);
+            counter.increment(sequence);
+            expected.compute(sequence, (s, c) -> c == null ? 1 : c + 1);
+        }
+
+        assertEquals(expected.size(), counter.size());
+        assertEquals(expected, toMap(counter));
+    }
+
+    @Test
+    public void should_handle_colliding_hashes() {
+        // "Aa" and "BB" share a String hashCode
+        counter.increment("Aa");
+        counter.increment("BB");
+        counter.increment("BB");
+
+        assertEquals(2, counter.size());
+        assertEquals(Integer.valueOf(1), toMap(counter).get("Aa"));
+        assertEquals(Integer.valueOf(2), toMap(counter).get("BB"));
+    }
+
+    @Test
+    public void should_init_counter_with_expected_size() {
+        counter = new CompactSequenceCounter(100000);
+
+        for (int i = 0; i < 100000; i++) {
+            counter.increment("sequence " + i);
+        }
+
+        assertEquals(100000, counter.size());
+    }
+
+    private static Map<String, Integer> toMap(final SequenceCounter counter) {
+        return counter.entries().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+}
@@ -8,6 +8,7 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -18,6 +19,7 @@ import static org.junit.Assert.assertTrue;
 public class TextReaderTest {
     private static final String MOBY_DICK_FILE = "src/test/resources/files/moby-dick.txt";
     private static final String BROTHERS_KARAMAZOV_FILE = "src/test/resources/files/brothers-karamazov.txt";
+    private static final String SHORT_TEXT_FILE = "src/test/resources/files/short-text.txt";
 
     private static final Path MOBY_DICK_RESULTS_FILE = new File("src/test/resources/results/moby-dick-results.txt").toPath();
     private static final Path BROTHERS_KARAMAZOV_RESULTS_FILE = new File("src/test/resources/results/brothers-karamazov-results.txt").toPath();
@@ -25,6 +27,8 @@ public class TextReaderTest {
     private static final Path GENERIC_TEST_RESULTS_FILE = new File("src/test/resources/results/generic-test-results.txt").toPath();
 
     private static final String NEWLINE_SEPARATOR = System.getProperty("line.separator");
+    private static final String BAD_FILE_ERROR = "There was an issue processing the file: badfileName.txt";
+    private static final Integer MOBY_DICK_DISTINCT_SEQUENCES = 193544;
     private static final String EMPTY_READER_RESULT = NEWLINE_SEPARATOR +
             "No sources were provided, and thus no output is available! =^-^=" +
             NEWLINE_SEPARATOR +
@@ -72,6 +76,15 @@ public class TextReaderTest {
         assertTrue(mockErrOutput.toString().contains("There was an issue processing the file: badfileName.txt"));
     }
 
+    @Test
+    public void should_report_missing_file_once() {
+        textReader.processInput("badfileName.txt");
+
+        // presizing must not report the missing file on top of the actual processing
+        assertEquals(1, mockErrOutput.toString().split(BAD_FILE_ERROR, -1).length - 1);
+        assertEquals(EMPTY_READER_RESULT, textReader.getMostCommonWords());
+    }
+
     @Test
     public void should_handle_if_no_stdin() {
         setInput("");
@@ -134,6 +147,59 @@ public class TextReaderTest {
         assertEquals(toString(GENERIC_TEST_RESULTS_FILE), textReader.getMostCommonWords());
     }
 
+    @Test
+    public void should_report_distinct_sequence_count() {
+        setInput("The beef was fine. The beef was fine. The bread was fine.\n");
+
+        textReader.processInput();
+        // "the beef was", "beef was fine", "was fine the", "fine the beef", "fine the bread", "the bread was", "bread was fine"
+        assertTrue(textReader.getMostCommonWords().contains(NEWLINE_SEPARATOR + "Distinct word sequences: 7" +
+                NEWLINE_SEPARATOR));
+    }
+
+    @Test
+    public void should_estimate_distinct_sequences_for_presizing() {
+        final long estimate = textReader.estimateDistinctSequences(Paths.get(MOBY_DICK_FILE));
+
+        // the sample is extrapolated to the whole file so allow for some overshoot, but never undersize badly
+        assertTrue("Estimate was " + estimate, estimate > MOBY_DICK_DISTINCT_SEQUENCES * 0.9);
+        assertTrue("Estimate was " + estimate, estimate < MOBY_DICK_DISTINCT_SEQUENCES * 1.25);
+    }
+
+    @Test
+    public void should_estimate_nothing_for_missing_file() {
+        assertEquals(0, textReader.estimateDistinctSequences(Paths.get("badfileName.txt")));
+        assertEquals("", mockErrOutput.toString());
+    }
+
+    @Test
+    public void should_presize_for_all_inputs_in_aggregate() {
+        textReader.presize(SHORT_TEXT_FILE, MOBY_DICK_FILE);
+        textReader.processInput(SHORT_TEXT_FILE);
+        textReader.processInput(MOBY_DICK_FILE);
+
+        // the short text alone would call for a hash counter, moby dick tips the aggregate over to the compact one
+        assertTrue(textReader.getWordSequenceCounter() instanceof CompactSequenceCounter);
+    }
+
+    @Test
+    public void should_presize_each_input_after_reset() {
+        textReader.presize(MOBY_DICK_FILE);
+        textReader.processInput(MOBY_DICK_FILE);
+        assertTrue(textReader.getWordSequenceCounter() instanceof CompactSequenceCounter);
+
+        textReader.reset();
+        textReader.processInput(SHORT_TEXT_FILE);
+        assertTrue(textReader.getWordSequenceCounter() instanceof HashSequenceCounter);
+    }
+
+    @Test
+    public void should_pick_counter_by_expected_size() {
+        assertTrue(TextReader.createCounter(0) instanceof HashSequenceCounter);
+        assertTrue(TextReader.createCounter(1000) instanceof HashSequenceCounter);
+        assertTrue(TextReader.createCounter(MOBY_DICK_DISTINCT_SEQUENCES) instanceof CompactSequenceCounter);
+    }
+
     private static String toString(final Path path) throws IOException {
         return new String(Files.readAllBytes(path));
     }